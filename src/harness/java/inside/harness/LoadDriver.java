@@ -0,0 +1,295 @@
+package inside.harness;
+
+import arc.*;
+import arc.backend.headless.HeadlessApplication;
+import arc.files.Fi;
+import arc.func.*;
+import arc.struct.*;
+import arc.util.*;
+import inside.*;
+import mindustry.mod.ModListing;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Drives {@link GitHubDownloader} against a {@link StubGitHubServer} and reports catalog sync time and install throughput.
+ * <p>
+ * Options are passed as {@code --key=value}:
+ * <ul>
+ *     <li>{@code transport} - {@code http-client} or {@code arc}, default {@code http-client}</li>
+ *     <li>{@code syncs} - syncs of each catalog (plugins and mods) to measure, default 20</li>
+ *     <li>{@code installs} - installs to perform, default 200</li>
+ *     <li>{@code concurrency} - installs in flight at once, default 8</li>
+ *     <li>{@code copies} - catalog size multiplier, default 100</li>
+ *     <li>{@code artifact-kb} - artifact size in KiB, default 256</li>
+ *     <li>{@code latency}, {@code jitter} - injected server latency in ms, default 0</li>
+ *     <li>{@code error-rate}, {@code rate-limit-rate}, {@code truncate-rate} - injected fault probabilities, default 0</li>
+ *     <li>{@code shared-cache} - directory of a {@link SharedCacheTransport}, disabled by default</li>
+ *     <li>{@code timeout} - seconds to wait for each phase, default 120</li>
+ * </ul>
+ */
+public class LoadDriver{
+
+    public static void main(String[] args) throws Exception {
+        StringMap options = new StringMap();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split != -1 ? split : arg.length()), split != -1 ? arg.substring(split + 1) : "true");
+        }
+
+        int syncs = options.getInt("syncs", 20);
+        int installs = options.getInt("installs", 200);
+        int concurrency = options.getInt("concurrency", 8);
+        long timeout = options.getInt("timeout", 120);
+
+        new HeadlessApplication(new ApplicationListener(){});
+        if (Core.net == null) {
+            Core.net = new Net();
+        }
+
+        var server = new StubGitHubServer(Math.max(concurrency * 2, 4), options.getInt("copies", 100),
+                options.getInt("artifact-kb", 256) * 1024);
+        server.faults.latency = options.getInt("latency", 0);
+        server.faults.jitter = options.getInt("jitter", 0);
+        server.faults.errorRate = options.getFloat("error-rate", 0f);
+        server.faults.rateLimitRate = options.getFloat("rate-limit-rate", 0f);
+        server.faults.truncateRate = options.getFloat("truncate-rate", 0f);
+        server.start();
+
+        String transportName = options.get("transport", "http-client");
+        HttpTransport transport = switch (transportName) {
+            case "arc" -> new ArcHttpTransport();
+            case "http-client" -> {
+                HttpTransport pooled = PooledHttpTransport.create();
+                if (pooled == null) {
+                    throw new IllegalStateException("java.net.http is not available in this runtime.");
+                }
+                yield pooled;
+            }
+            default -> throw new IllegalArgumentException("Unknown transport: " + transportName);
+        };
+        if (options.containsKey("shared-cache")) {
+            transport = new SharedCacheTransport(new Fi(options.get("shared-cache")), transport);
+        }
+        var timing = new TimingTransport(transport);
+        var stats = new Stats();
+
+        // every request gets its own downloader, so a late callback can't be counted against another request
+        Func<Boolc, HarnessDownloader> downloader = completion -> {
+            var d = new HarnessDownloader(timing, stats, completion);
+            d.apiUrl = server.url();
+            d.pluginsUrl = server.url() + "/plugins.json";
+            d.modsUrl = server.url() + "/mods.json";
+            return d;
+        };
+
+        Log.info("Stub server at @, transport '@', @ plugins in catalog.", server.url(), transport.name(), server.plugins.size);
+
+        // catalog sync
+        var pluginSyncTimes = new LongSeq();
+        var modSyncTimes = new LongSeq();
+        int syncFailures = 0;
+        for (int i = 0; i < syncs; i++) {
+            if (!sync(downloader, false, timeout, pluginSyncTimes)) syncFailures++;
+            if (!sync(downloader, true, timeout, modSyncTimes)) syncFailures++;
+        }
+
+        // installs
+        Seq<ModListing> catalog = new Seq<>(server.plugins);
+        catalog.addAll(server.mods);
+        var permits = new Semaphore(concurrency);
+        var remaining = new CountDownLatch(installs);
+        var succeeded = new AtomicInteger();
+        var failed = new AtomicInteger();
+        Boolc completion = success -> {
+            (success ? succeeded : failed).incrementAndGet();
+            permits.release();
+            remaining.countDown();
+        };
+
+        long start = Time.nanos();
+        long deadline = start + TimeUnit.SECONDS.toNanos(timeout);
+        for (int i = 0; i < installs; i++) {
+            // an install that never reports back keeps its permit, don't wait for it past the phase timeout
+            if (!permits.tryAcquire(Math.max(deadline - Time.nanos(), 0), TimeUnit.NANOSECONDS)) {
+                Log.warn("Stopped submitting installs after @/@, all in-flight installs are stuck.", i, installs);
+                break;
+            }
+            ModListing listing = catalog.get(i % catalog.size);
+            var install = downloader.get(completion);
+            install.importMod(listing.repo, listing.hasJava, () -> install.complete(true));
+        }
+        remaining.await(Math.max(deadline - Time.nanos(), 0), TimeUnit.NANOSECONDS);
+        long elapsed = Time.timeSinceNanos(start);
+
+        server.stop();
+
+        double seconds = elapsed / 1e9;
+        Log.info("-- Plugin catalog sync: @/@ ok --", pluginSyncTimes.size, syncs);
+        Log.info("  @", summary(pluginSyncTimes, "ms", 1000));
+        Log.info("-- Mod catalog sync: @/@ ok --", modSyncTimes.size, syncs);
+        Log.info("  @", summary(modSyncTimes, "ms", 1000));
+        int installed = succeeded.get(), failures = failed.get();
+        Log.info("-- Installs: @/@ ok, @ failed, @ unfinished, concurrency @ --", installed, installs,
+                failures, Math.max(installs - installed - failures, 0), concurrency);
+        // only successful installs count towards throughput, fast failures must not look like a speed-up
+        Log.info("  @ installs/s, @ failures/s, @ MiB/s over @s", Strings.fixed((float)(installed / seconds), 2),
+                Strings.fixed((float)(failures / seconds), 2),
+                Strings.fixed((float)(stats.bytes.get() / 1024d / 1024d / seconds), 2), Strings.fixed((float)seconds, 2));
+        Log.info("-- Requests: @ served --", server.requests.get());
+        for (var entry : timing.times) {
+            Log.info("  @: @", entry.key, summary(entry.value, "ms", 1));
+        }
+        if (!stats.errors.isEmpty()) {
+            Log.info("-- Errors --");
+            for (var entry : stats.errors) {
+                Log.info("  @: @", entry.key, entry.value);
+            }
+        }
+
+        Core.app.exit();
+        System.exit(syncFailures == syncs * 2 || installed == 0 ? 1 : 0);
+    }
+
+    /** Fetches one catalog from scratch, recording its time in microseconds on success. */
+    private static boolean sync(Func<Boolc, HarnessDownloader> downloader, boolean mods, long timeout, LongSeq times) throws InterruptedException {
+        var latch = new CountDownLatch(1);
+        var ok = new AtomicBoolean();
+        var sync = downloader.get(success -> {
+            ok.set(success);
+            latch.countDown();
+        });
+
+        long start = Time.nanos();
+        if (mods) {
+            sync.getModList(list -> sync.complete(true));
+        } else {
+            sync.getPluginList(list -> sync.complete(true));
+        }
+        if (!latch.await(timeout, TimeUnit.SECONDS) || !ok.get()) {
+            return false;
+        }
+        times.add(Time.timeSinceNanos(start) / 1000);
+        return true;
+    }
+
+    private static String summary(LongSeq values, String unit, float scale) {
+        if (values.isEmpty()) {
+            return "no samples";
+        }
+        long[] sorted = values.toArray();
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long value : sorted) {
+            sum += value;
+        }
+        return Strings.format("n=@ min=@@ avg=@@ p50=@@ p95=@@ max=@@", sorted.length,
+                Strings.fixed(sorted[0] / scale, 2), unit,
+                Strings.fixed(sum / (float)sorted.length / scale, 2), unit,
+                Strings.fixed(sorted[(int)(sorted.length * 0.50f)] / scale, 2), unit,
+                Strings.fixed(sorted[Math.min((int)(sorted.length * 0.95f), sorted.length - 1)] / scale, 2), unit,
+                Strings.fixed(sorted[sorted.length - 1] / scale, 2), unit);
+    }
+
+    /** Counters shared by all downloaders of a run. */
+    static class Stats{
+        final AtomicLong bytes = new AtomicLong();
+        final ObjectIntMap<String> errors = new ObjectIntMap<>();
+
+        void error(String key) {
+            synchronized (errors) {
+                errors.increment(key);
+            }
+        }
+    }
+
+    /** Downloader for a single request, which drains artifacts instead of importing them and reports the outcome once. */
+    static class HarnessDownloader extends GitHubDownloader{
+        final Stats stats;
+        final Boolc completion;
+        final AtomicBoolean completed = new AtomicBoolean();
+
+        HarnessDownloader(HttpTransport transport, Stats stats, Boolc completion) {
+            super(transport);
+            this.stats = stats;
+            this.completion = completion;
+        }
+
+        void complete(boolean success) {
+            if (completed.compareAndSet(false, true)) {
+                completion.get(success);
+            }
+        }
+
+        @Override
+        public void handleMod(String repo, HttpTransport.Response result, Runnable runnable) {
+            byte[] buffer = new byte[8192];
+            try (var in = result.getResultAsStream()) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    stats.bytes.addAndGet(read);
+                }
+            } catch(Throwable t) {
+                importFail(t);
+                return;
+            }
+            runnable.run();
+        }
+
+        @Override
+        protected void showStatus(Net.HttpStatus status) {
+            stats.error(status.toString());
+            complete(false);
+        }
+
+        @Override
+        protected void catalogFail(Throwable t) {
+            stats.error("catalog: " + Strings.getFinalCause(t).getClass().getSimpleName());
+            complete(false);
+        }
+
+        @Override
+        protected void importFail(Throwable t) {
+            stats.error(Strings.getFinalCause(t).getClass().getSimpleName());
+            complete(false);
+        }
+    }
+
+    /** Records time-to-headers of every response, grouped by endpoint. */
+    static class TimingTransport implements HttpTransport{
+        final HttpTransport transport;
+        final OrderedMap<String, LongSeq> times = new OrderedMap<>();
+
+        TimingTransport(HttpTransport transport) {
+            this.transport = transport;
+        }
+
+        @Override
+        public void get(String url, Cons<Response> success, Cons<Throwable> failure) {
+            transport.get(url, res -> {
+                synchronized (times) {
+                    times.get(endpoint(url), LongSeq::new).add(res.getTime());
+                }
+                success.get(res);
+            }, failure);
+        }
+
+        @Override
+        public String name() {
+            return transport.name();
+        }
+
+        private static String endpoint(String url) {
+            if (url.endsWith(".json")) return "catalog";
+            if (url.contains("/releases/latest")) return "release";
+            if (url.contains("/zipball/")) return "zipball";
+            if (url.contains("/assets/") || url.contains("/archive/")) return "artifact";
+            return "repo";
+        }
+    }
+}
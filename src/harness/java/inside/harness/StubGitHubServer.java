@@ -0,0 +1,247 @@
+package inside.harness;
+
+import arc.struct.*;
+import arc.util.*;
+import arc.util.io.Streams;
+import com.sun.net.httpserver.*;
+import mindustry.io.JsonIO;
+import mindustry.mod.ModListing;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local stand-in for the GitHub endpoints used by {@link inside.GitHubDownloader}, serving recorded fixtures.
+ * <ul>
+ *     <li>{@code /plugins.json}, {@code /mods.json} - catalogs</li>
+ *     <li>{@code /repos/<repo>} - repository metadata</li>
+ *     <li>{@code /repos/<repo>/releases/latest} - latest release with a single jar asset</li>
+ *     <li>{@code /repos/<repo>/zipball/<branch>} - redirect to {@code /archive/<repo>/<branch>.zip}</li>
+ *     <li>{@code /assets/...}, {@code /archive/...} - artifact bytes</li>
+ * </ul>
+ */
+public class StubGitHubServer{
+
+    public final Faults faults = new Faults();
+
+    public final AtomicInteger requests = new AtomicInteger();
+
+    public final Seq<ModListing> plugins, mods;
+
+    private final ObjectMap<String, ModListing> byRepo = new ObjectMap<>();
+    private final byte[] pluginsJson, modsJson, artifact;
+    private final String repoTemplate, releaseTemplate;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * @param threads request handler threads
+     * @param catalogCopies how many times fixture entries are repeated in the catalogs, each copy gets its own repo name
+     * @param artifactSize size of every served artifact in bytes
+     */
+    public StubGitHubServer(int threads, int catalogCopies, int artifactSize) throws IOException {
+        plugins = expand(fixture("plugins.json"), catalogCopies);
+        mods = expand(fixture("mods.json"), catalogCopies);
+        pluginsJson = catalogJson(plugins);
+        modsJson = catalogJson(mods);
+        plugins.each(l -> byRepo.put(l.repo, l));
+        mods.each(l -> byRepo.put(l.repo, l));
+
+        repoTemplate = fixture("repo.json");
+        releaseTemplate = fixture("release.json");
+
+        artifact = new byte[artifactSize];
+        new Random(artifactSize).nextBytes(artifact);
+
+        executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "StubGitHubServer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /** @return base url of the server, without trailing slash. */
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            faults.delay();
+
+            float roll = ThreadLocalRandom.current().nextFloat();
+            if (roll < faults.rateLimitRate) {
+                exchange.getResponseHeaders().add("X-RateLimit-Limit", "60");
+                exchange.getResponseHeaders().add("X-RateLimit-Remaining", "0");
+                exchange.getResponseHeaders().add("X-RateLimit-Reset", String.valueOf(Time.millis() / 1000 + 3600));
+                send(exchange, 403, json("{\"message\":\"API rate limit exceeded for 127.0.0.1.\"}"), true);
+                return;
+            }
+            if (roll < faults.rateLimitRate + faults.errorRate) {
+                send(exchange, 502, json("{\"message\":\"Server Error\"}"), true);
+                return;
+            }
+
+            route(exchange);
+        } catch(IOException e) {
+            // client went away or body was truncated on purpose
+        } catch(Throwable t) {
+            Log.err(t);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+
+        if (path.equals("/plugins.json")) {
+            send(exchange, 200, pluginsJson, false);
+        } else if (path.equals("/mods.json")) {
+            send(exchange, 200, modsJson, false);
+        } else if (path.startsWith("/repos/")) {
+            String[] parts = path.substring("/repos/".length()).split("/");
+            ModListing listing = parts.length >= 2 ? byRepo.get(parts[0] + "/" + parts[1]) : null;
+            if (listing == null) {
+                send(exchange, 404, json("{\"message\":\"Not Found\"}"), true);
+            } else if (parts.length == 2) {
+                send(exchange, 200, json(repoTemplate
+                        .replace("{repo}", listing.repo)
+                        .replace("{branch}", "master")
+                        .replace("{language}", listing.hasJava ? "Java" : "JavaScript")
+                        .replace("{stars}", String.valueOf(listing.stars))), false);
+            } else if (parts.length == 4 && parts[2].equals("releases") && parts[3].equals("latest")) {
+                send(exchange, 200, json(releaseTemplate
+                        .replace("{repo}", listing.repo)
+                        .replace("{name}", parts[1])
+                        .replace("{size}", String.valueOf(artifact.length))
+                        .replace("{base}", url())), false);
+            } else if (parts.length == 4 && parts[2].equals("zipball")) {
+                exchange.getResponseHeaders().add("Location", url() + "/archive/" + listing.repo + "/" + parts[3] + ".zip");
+                exchange.sendResponseHeaders(302, -1);
+            } else {
+                send(exchange, 404, json("{\"message\":\"Not Found\"}"), true);
+            }
+        } else if (path.startsWith("/assets/") || path.startsWith("/archive/")) {
+            exchange.getResponseHeaders().add("Content-Type", "application/octet-stream");
+            send(exchange, 200, artifact, false);
+        } else {
+            send(exchange, 404, json("{\"message\":\"Not Found\"}"), true);
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body, boolean fault) throws IOException {
+        String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (accept != null && accept.contains("gzip") && body != artifact) {
+            body = gzip(body);
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+
+        // a truncated body advertises the full length, then drops the connection half-way
+        boolean truncate = !fault && status == 200 && ThreadLocalRandom.current().nextFloat() < faults.truncateRate;
+        exchange.sendResponseHeaders(status, body.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(body, 0, truncate ? body.length / 2 : body.length);
+        }
+    }
+
+    private static byte[] json(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static String fixture(String name) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var in = StubGitHubServer.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new FileNotFoundException("Missing fixture: " + name);
+            }
+            Streams.copy(in, out);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Seq<ModListing> expand(String json, int copies) {
+        Seq<ModListing> fixtures = JsonIO.json.fromJson(Seq.class, ModListing.class, json);
+        Seq<ModListing> result = new Seq<>(fixtures.size * copies);
+        for (int i = 0; i < copies; i++) {
+            for (ModListing fixture : fixtures) {
+                ModListing listing = new ModListing();
+                listing.repo = i == 0 ? fixture.repo : fixture.repo + "-" + i;
+                listing.name = i == 0 ? fixture.name : fixture.name + " " + i;
+                listing.author = fixture.author;
+                listing.lastUpdated = fixture.lastUpdated;
+                listing.description = fixture.description;
+                listing.minGameVersion = fixture.minGameVersion;
+                listing.hasScripts = fixture.hasScripts;
+                listing.hasJava = fixture.hasJava;
+                listing.stars = fixture.stars;
+                result.add(listing);
+            }
+        }
+        return result;
+    }
+
+    private static byte[] catalogJson(Seq<ModListing> listings) {
+        var builder = new StringBuilder("[");
+        for (int i = 0; i < listings.size; i++) {
+            ModListing l = listings.get(i);
+            if (i > 0) builder.append(',');
+            builder.append("{\"repo\":").append(quote(l.repo))
+                    .append(",\"name\":").append(quote(l.name))
+                    .append(",\"author\":").append(quote(l.author))
+                    .append(",\"lastUpdated\":").append(quote(l.lastUpdated))
+                    .append(",\"description\":").append(quote(l.description))
+                    .append(",\"minGameVersion\":").append(quote(l.minGameVersion))
+                    .append(",\"hasScripts\":").append(l.hasScripts)
+                    .append(",\"hasJava\":").append(l.hasJava)
+                    .append(",\"stars\":").append(l.stars)
+                    .append('}');
+        }
+        return json(builder.append(']').toString());
+    }
+
+    private static String quote(String s) {
+        return '"' + s.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
+    }
+
+    /** Faults injected into every request; may be changed while the server is running. */
+    public static class Faults{
+        public volatile int latency, jitter;
+        public volatile float errorRate, rateLimitRate, truncateRate;
+
+        void delay() throws InterruptedException {
+            int time = latency + (jitter > 0 ? ThreadLocalRandom.current().nextInt(jitter + 1) : 0);
+            if (time > 0) {
+                Thread.sleep(time);
+            }
+        }
+    }
+}
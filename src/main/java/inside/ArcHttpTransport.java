@@ -0,0 +1,65 @@
+package inside;
+
+import arc.*;
+import arc.func.Cons;
+import arc.util.*;
+
+import java.io.InputStream;
+
+/** Fallback transport based on {@link Core#net}. */
+public class ArcHttpTransport implements HttpTransport{
+
+    @Override
+    public void get(String url, Cons<Response> success, Cons<Throwable> failure) {
+        long start = Time.millis();
+        Core.net.httpGet(url, res -> success.get(new ArcResponse(url, res, Time.timeSinceMillis(start))), failure);
+    }
+
+    @Override
+    public String name() {
+        return "arc";
+    }
+
+    static class ArcResponse implements Response{
+        final String url;
+        final Net.HttpResponse response;
+        final long time;
+
+        ArcResponse(String url, Net.HttpResponse response, long time) {
+            this.url = url;
+            this.response = response;
+            this.time = time;
+        }
+
+        @Override
+        public Net.HttpStatus getStatus() {
+            return response.getStatus();
+        }
+
+        @Nullable
+        @Override
+        public String getHeader(String name) {
+            return response.getHeader(name);
+        }
+
+        @Override
+        public InputStream getResultAsStream() {
+            return response.getResultAsStream();
+        }
+
+        @Override
+        public String getResultAsString() {
+            return response.getResultAsString();
+        }
+
+        @Override
+        public String getUrl() {
+            return url;
+        }
+
+        @Override
+        public long getTime() {
+            return time;
+        }
+    }
+}
@@ -23,20 +23,37 @@ public class GitHubDownloader{
 
     public static final String modListUrl = "https://raw.githubusercontent.com/Anuken/MindustryMods/master/mods.json";
 
+    /** Endpoints, overridable to point the downloader at a mirror or a local stand-in. */
+    public String apiUrl = ghApi, pluginsUrl = pluginListUrl, modsUrl = modListUrl;
+
     public final ObjectSet<String> jvmLangs = ObjectSet.with("Java", "Kotlin", "Groovy");
 
     @Nullable
     public Seq<PluginListing> pluginList;
     public long lastPluginsTimeSynced;
+    /** Incremented every time {@link #pluginList} is replaced. */
+    public int pluginsGeneration;
 
     @Nullable
     public Seq<ModListing> modList;
     public long lastModsTimeSynced;
+    /** Incremented every time {@link #modList} is replaced. */
+    public int modsGeneration;
+
+    public HttpTransport transport;
+
+    public GitHubDownloader() {
+        this(HttpTransport.create());
+    }
+
+    public GitHubDownloader(HttpTransport transport) {
+        this.transport = transport;
+    }
 
     @SuppressWarnings("unchecked")
     public void getPluginList(Cons<Seq<PluginListing>> listener) {
         if (pluginList == null || Time.timeSinceMillis(lastPluginsTimeSynced) >= syncIntervalTime) {
-            Core.net.httpGet(pluginListUrl, response -> {
+            get(pluginsUrl, response -> {
                 String strResult = response.getResultAsString();
                 var status = response.getStatus();
 
@@ -47,9 +64,11 @@ public class GitHubDownloader{
                         try {
                             pluginList = JsonIO.json.fromJson(Seq.class, PluginListing.class, strResult);
                             pluginList.sortComparing(p -> Instant.parse(p.lastUpdated)).reverse();
+                            lastPluginsTimeSynced = Time.millis();
+                            pluginsGeneration++;
                             listener.get(pluginList);
                         } catch(Throwable t) {
-                            Log.err(t);
+                            catalogFail(t);
                         }
                     }
                 });
@@ -62,7 +81,7 @@ public class GitHubDownloader{
     @SuppressWarnings("unchecked")
     public void getModList(Cons<Seq<ModListing>> listener) {
         if (modList == null || Time.timeSinceMillis(lastModsTimeSynced) >= syncIntervalTime) {
-            Core.net.httpGet(modListUrl, response -> {
+            get(modsUrl, response -> {
                 String strResult = response.getResultAsString();
                 var status = response.getStatus();
 
@@ -73,9 +92,11 @@ public class GitHubDownloader{
                         try {
                             modList = JsonIO.json.fromJson(Seq.class, ModListing.class, strResult);
                             modList.sortComparing(m -> Instant.parse(m.lastUpdated)).reverse();
+                            lastModsTimeSynced = Time.millis();
+                            modsGeneration++;
                             listener.get(modList);
                         } catch(Throwable t) {
-                            Log.err(t);
+                            catalogFail(t);
                         }
                     }
                 });
@@ -85,11 +106,13 @@ public class GitHubDownloader{
         }
     }
 
-    public void handleMod(String repo, Net.HttpResponse result, Runnable runnable) {
+    public void handleMod(String repo, HttpTransport.Response result, Runnable runnable) {
         var old = Log.level;
         try {
             Fi file = tmpDirectory.child(repo.replace("/", "") + ".zip");
-            Streams.copy(result.getResultAsStream(), file.write(false));
+            try (var in = result.getResultAsStream(); var out = file.write(false)) {
+                Streams.copy(in, out);
+            }
             // TODO: remove after release
             if (Version.build != 127) {
                 Log.level = Log.LogLevel.none;
@@ -112,7 +135,7 @@ public class GitHubDownloader{
         if (hasJava) {
             importJavaMod(repo, runnable);
         } else {
-            Core.net.httpGet(ghApi + "/repos/" + repo, res -> {
+            get(apiUrl + "/repos/" + repo, res -> {
                 if (checkError(res)) {
                     var json = Jval.read(res.getResultAsString());
                     String mainBranch = json.getString("default_branch");
@@ -132,14 +155,14 @@ public class GitHubDownloader{
 
     public void importJavaMod(String repo, Runnable runnable) {
         // grab latest release
-        Core.net.httpGet(ghApi + "/repos/" + repo + "/releases/latest", res -> {
+        get(apiUrl + "/repos/" + repo + "/releases/latest", res -> {
             if (checkError(res)) {
                 var json = Jval.read(res.getResultAsString());
                 var asset = json.get("assets").asArray().find(j -> j.getString("name").endsWith(".jar"));
                 if (asset != null) {
                     // grab actual file
                     String url = asset.getString("browser_download_url");
-                    Core.net.httpGet(url, result -> {
+                    get(url, result -> {
                         if (checkError(result)) {
                             handleMod(repo, result, runnable);
                         }
@@ -152,11 +175,13 @@ public class GitHubDownloader{
     }
 
     public void importBranch(String branch, String repo, Cons<Net.HttpStatus> err, Runnable runnable) {
-        Core.net.httpGet(ghApi + "/repos/" + repo + "/zipball/" + branch, loc -> {
+        get(apiUrl + "/repos/" + repo + "/zipball/" + branch, loc -> {
             if (loc.getStatus() == Net.HttpStatus.OK) {
                 if (loc.getHeader("Location") != null) {
-                    Core.net.httpGet(loc.getHeader("Location"), result -> {
+                    close(loc);
+                    get(loc.getHeader("Location"), result -> {
                         if (result.getStatus() != Net.HttpStatus.OK) {
+                            close(result);
                             err.get(result.getStatus());
                         } else {
                             handleMod(repo, result, runnable);
@@ -166,25 +191,46 @@ public class GitHubDownloader{
                     handleMod(repo, loc, runnable);
                 }
             } else {
+                close(loc);
                 err.get(loc.getStatus());
             }
         }, this::importFail);
     }
 
-    private boolean checkError(Net.HttpResponse res) {
+    private void get(String url, Cons<HttpTransport.Response> success, Cons<Throwable> failure) {
+        transport.get(url, res -> {
+            Log.debug("[@] GET @ -> @ (@ms)", transport.name(), url, res.getStatus().code, res.getTime());
+            success.get(res);
+        }, failure);
+    }
+
+    private boolean checkError(HttpTransport.Response res) {
         if (res.getStatus() == Net.HttpStatus.OK) {
             return true;
         } else {
+            close(res);
             showStatus(res.getStatus());
             return false;
         }
     }
 
-    private void showStatus(Net.HttpStatus status) {
+    /** Releases the body of a response which is not going to be read, so its connection can be reused. */
+    private void close(HttpTransport.Response res) {
+        try {
+            res.getResultAsStream().close();
+        } catch(Throwable ignored) {
+        }
+    }
+
+    protected void showStatus(Net.HttpStatus status) {
         Core.app.post(() -> Log.err("Connection error: @", Strings.capitalize(status.toString().toLowerCase())));
     }
 
-    private void importFail(Throwable t) {
+    protected void catalogFail(Throwable t) {
+        Log.err(t);
+    }
+
+    protected void importFail(Throwable t) {
         Core.app.post(() -> pluginError(t));
     }
 
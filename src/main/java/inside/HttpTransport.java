@@ -0,0 +1,62 @@
+package inside;
+
+import arc.Net;
+import arc.func.Cons;
+import arc.util.Nullable;
+import arc.util.io.Streams;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/** Transport used by {@link GitHubDownloader} for all outgoing GET requests. */
+public interface HttpTransport{
+
+    /**
+     * Performs an asynchronous GET request. Both callbacks are invoked off the main thread.
+     *
+     * @param url request url
+     * @param success called with the response, whatever its status is
+     * @param failure called if the request could not be completed
+     */
+    void get(String url, Cons<Response> success, Cons<Throwable> failure);
+
+    /** Drops anything remembered about the given url, so the next request goes to the network. */
+    default void invalidate(String url) {
+    }
+
+    /** @return short transport name for logging. */
+    String name();
+
+    /** @return pooled {@code java.net.http.HttpClient} transport if the runtime has one, {@link ArcHttpTransport} otherwise. */
+    static HttpTransport create() {
+        HttpTransport pooled = PooledHttpTransport.create();
+        return pooled != null ? pooled : new ArcHttpTransport();
+    }
+
+    interface Response{
+
+        Net.HttpStatus getStatus();
+
+        @Nullable
+        String getHeader(String name);
+
+        /** @return already decoded body stream; can be read only once. */
+        InputStream getResultAsStream();
+
+        default String getResultAsString() {
+            var out = new ByteArrayOutputStream();
+            try (var in = getResultAsStream()) {
+                Streams.copy(in, out);
+            } catch(IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        /** @return the requested url. */
+        String getUrl();
+
+        /** @return milliseconds from sending the request until the response headers were received. */
+        long getTime();
+    }
+}
@@ -1,5 +1,6 @@
 package inside;
 
+import arc.files.Fi;
 import arc.func.Boolf2;
 import arc.math.Mathf;
 import arc.struct.*;
@@ -14,10 +15,19 @@ public class PluginBrowser extends Plugin {
 
     public GitHubDownloader gitHubDownloader;
 
+    public QueryCache queryCache = new QueryCache();
+
     @Override
     public void init() {
 
         gitHubDownloader = new GitHubDownloader();
+
+        // optional cache shared by all server processes on this host
+        String sharedCache = System.getProperty("pluginbrowser.cache", System.getenv("PLUGIN_BROWSER_CACHE"));
+        if (sharedCache != null && !sharedCache.isEmpty()) {
+            gitHubDownloader.transport = new SharedCacheTransport(new Fi(sharedCache), gitHubDownloader.transport);
+            Log.info("Using shared plugin cache at '@'.", sharedCache);
+        }
     }
 
     @Override
@@ -31,9 +41,10 @@ public class PluginBrowser extends Plugin {
                         return;
                     }
 
-                    String arg = args[1].toLowerCase();
+                    String arg = args[1].toLowerCase(Locale.ROOT);
                     gitHubDownloader.getPluginList(seq -> {
-                        Seq<PluginListing> result = seq.select(p -> p.name.toLowerCase().contains(arg));
+                        Seq<PluginListing> result = queryCache.select("plugins", gitHubDownloader.pluginsGeneration, seq,
+                                QueryCache.normalize("search", arg), p -> p.name.toLowerCase(Locale.ROOT).contains(arg));
 
                         if (result.size > 1){
                             Log.info("Plugins found: @", result.size);
@@ -83,12 +94,8 @@ public class PluginBrowser extends Plugin {
                             return;
                         }
 
-                        Seq<PluginListing> result = seq.select(p -> {
-                            for(var param : params){
-                                return SearchCriteria.getCriteriaMap().get(param.key).get(param.value, p);
-                            }
-                            return false;
-                        });
+                        Seq<PluginListing> result = queryCache.select("plugins", gitHubDownloader.pluginsGeneration, seq,
+                                QueryCache.normalize("search-by", params), p -> matches(params, p));
 
                         if (result.size > 1){
                             Log.info("Plugins found: @", result.size);
@@ -191,6 +198,8 @@ public class PluginBrowser extends Plugin {
                 }
                 case "sync" -> {
                     gitHubDownloader.pluginList = null;
+                    queryCache.clear();
+                    gitHubDownloader.transport.invalidate(gitHubDownloader.pluginsUrl);
                     gitHubDownloader.getPluginList(seq -> Log.info("Fetched @ plugins.", seq.size));
                 }
                 default -> {
@@ -227,10 +236,10 @@ public class PluginBrowser extends Plugin {
                             return;
                         }
 
-                        String arg = args[1].toLowerCase();
+                        String arg = args[1].toLowerCase(Locale.ROOT);
                         gitHubDownloader.getModList(seq -> {
-                            Seq<ModListing> result = seq.select(p -> p.name.toLowerCase().contains(arg) ||
-                                    p.repo.toLowerCase().contains(arg));
+                            Seq<ModListing> result = queryCache.select("mods", gitHubDownloader.modsGeneration, seq,
+                                    QueryCache.normalize("search", arg), p -> p.name.toLowerCase(Locale.ROOT).contains(arg) || p.repo.toLowerCase(Locale.ROOT).contains(arg));
 
                             if (result.size > 1){
                                 Log.info("Mods found: @", result.size);
@@ -282,12 +291,8 @@ public class PluginBrowser extends Plugin {
                                 return;
                             }
 
-                            Seq<ModListing> result = seq.select(s -> {
-                                for (var param : params) {
-                                    return SearchCriteria.getCriteriaMap().get(param.key).get(param.value, s);
-                                }
-                                return false;
-                            });
+                            Seq<ModListing> result = queryCache.select("mods", gitHubDownloader.modsGeneration, seq,
+                                    QueryCache.normalize("search-by", params), m -> matches(params, m));
 
                             if (result.size > 1){
                                 Log.info("Mods found: @", result.size);
@@ -394,6 +399,8 @@ public class PluginBrowser extends Plugin {
                     }
                     case "sync" -> {
                         gitHubDownloader.modList = null;
+                        queryCache.clear();
+                        gitHubDownloader.transport.invalidate(gitHubDownloader.modsUrl);
                         gitHubDownloader.getModList(seq -> Log.info("Fetched @ mods.", seq.size));
                     }
                     default -> {
@@ -452,6 +459,15 @@ public class PluginBrowser extends Plugin {
         return criteria;
     }
 
+    public boolean matches(StringMap params, ModListing listing) {
+        for (var param : params) {
+            if (!SearchCriteria.getCriteriaMap().get(param.key).get(param.value, listing)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public String stripText(String text) {
         return Strings.stripColors(text).replaceAll("\\s+", " ").trim();
     }
@@ -0,0 +1,276 @@
+package inside;
+
+import arc.Net;
+import arc.func.Cons;
+import arc.util.*;
+
+import java.io.*;
+import java.lang.reflect.*;
+import java.net.*;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Transport based on a single shared {@code java.net.http.HttpClient}: connections are kept alive and reused,
+ * HTTP/2 is negotiated where the server supports it and gzip responses are decoded while streaming.
+ * The plugin is compiled against Java 8, so the client API is resolved reflectively.
+ */
+public class PooledHttpTransport implements HttpTransport{
+
+    public static final Duration connectTimeout = Duration.ofSeconds(10);
+
+    public static final Duration requestTimeout = Duration.ofSeconds(60);
+
+    /** Longest time a body read may go without receiving any data; {@link #requestTimeout} only covers the headers. */
+    public static final Duration readTimeout = Duration.ofSeconds(30);
+
+    private final Object client;
+    private final Method newRequestBuilder, header, timeout, build, sendAsync;
+    private final Method statusCode, headers, firstValue, body;
+    private final Object bodyHandler;
+
+    /** Runs response callbacks, which block on the body; dependents of the client's futures would run on the common pool. */
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "PluginBrowser-Http");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "PluginBrowser-ReadTimeout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private PooledHttpTransport() throws ReflectiveOperationException {
+        Class<?> clientType = Class.forName("java.net.http.HttpClient");
+        Class<?> clientBuilderType = Class.forName("java.net.http.HttpClient$Builder");
+        Class<?> versionType = Class.forName("java.net.http.HttpClient$Version");
+        Class<?> redirectType = Class.forName("java.net.http.HttpClient$Redirect");
+        Class<?> requestType = Class.forName("java.net.http.HttpRequest");
+        Class<?> requestBuilderType = Class.forName("java.net.http.HttpRequest$Builder");
+        Class<?> responseType = Class.forName("java.net.http.HttpResponse");
+        Class<?> bodyHandlerType = Class.forName("java.net.http.HttpResponse$BodyHandler");
+        Class<?> bodyHandlersType = Class.forName("java.net.http.HttpResponse$BodyHandlers");
+        Class<?> headersType = Class.forName("java.net.http.HttpHeaders");
+
+        Object builder = clientType.getMethod("newBuilder").invoke(null);
+        clientBuilderType.getMethod("version", versionType).invoke(builder, enumValue(versionType, "HTTP_2"));
+        clientBuilderType.getMethod("followRedirects", redirectType).invoke(builder, enumValue(redirectType, "NORMAL"));
+        clientBuilderType.getMethod("connectTimeout", Duration.class).invoke(builder, connectTimeout);
+        client = clientBuilderType.getMethod("build").invoke(builder);
+
+        newRequestBuilder = requestType.getMethod("newBuilder", URI.class);
+        header = requestBuilderType.getMethod("header", String.class, String.class);
+        timeout = requestBuilderType.getMethod("timeout", Duration.class);
+        build = requestBuilderType.getMethod("build");
+        sendAsync = clientType.getMethod("sendAsync", requestType, bodyHandlerType);
+
+        statusCode = responseType.getMethod("statusCode");
+        headers = responseType.getMethod("headers");
+        firstValue = headersType.getMethod("firstValue", String.class);
+        body = responseType.getMethod("body");
+
+        bodyHandler = bodyHandlersType.getMethod("ofInputStream").invoke(null);
+    }
+
+    /** @return new transport or {@code null} if the runtime has no {@code java.net.http} module. */
+    @Nullable
+    public static PooledHttpTransport create() {
+        try {
+            return new PooledHttpTransport();
+        } catch(Throwable t) {
+            Log.debug("java.net.http is unavailable, falling back to Core.net: @", t.toString());
+            return null;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumValue(Class<?> type, String name) {
+        return Enum.valueOf((Class<? extends Enum>)type, name);
+    }
+
+    @Override
+    public void get(String url, Cons<Response> success, Cons<Throwable> failure) {
+        long start = Time.millis();
+        CompletableFuture<?> future;
+        try {
+            Object builder = newRequestBuilder.invoke(null, URI.create(url));
+            header.invoke(builder, "Accept-Encoding", "gzip");
+            timeout.invoke(builder, requestTimeout);
+            future = (CompletableFuture<?>)sendAsync.invoke(client, build.invoke(builder), bodyHandler);
+        } catch(Throwable t) {
+            failure.get(unwrap(t));
+            return;
+        }
+
+        future.whenCompleteAsync((res, error) -> {
+            if (error != null) {
+                failure.get(unwrap(error));
+                return;
+            }
+
+            // Core.net reports exceptions thrown by the listener as failures, keep the same contract
+            try {
+                success.get(new PooledResponse(url, res, Time.timeSinceMillis(start)));
+            } catch(Throwable t) {
+                failure.get(unwrap(t));
+            }
+        }, executor);
+    }
+
+    @Override
+    public String name() {
+        return "http-client";
+    }
+
+    private static Throwable unwrap(Throwable t) {
+        while ((t instanceof InvocationTargetException || t instanceof CompletionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
+    class PooledResponse implements Response{
+        final String url;
+        final Net.HttpStatus status;
+        final Object headers;
+        final InputStream body;
+        final long time;
+
+        PooledResponse(String url, Object response, long time) throws ReflectiveOperationException, IOException {
+            this.url = url;
+            this.time = time;
+            status = Net.HttpStatus.byCode((Integer)statusCode.invoke(response));
+            headers = PooledHttpTransport.this.headers.invoke(response);
+
+            InputStream stream = new DeadlineInputStream((InputStream)PooledHttpTransport.this.body.invoke(response));
+            body = "gzip".equalsIgnoreCase(getHeader("Content-Encoding")) ? new GZIPInputStream(stream) : stream;
+        }
+
+        @Override
+        public Net.HttpStatus getStatus() {
+            return status;
+        }
+
+        @Nullable
+        @Override
+        public String getHeader(String name) {
+            try {
+                return ((Optional<?>)firstValue.invoke(headers, name)).map(String::valueOf).orElse(null);
+            } catch(ReflectiveOperationException e) {
+                throw new ArcRuntimeException(e);
+            }
+        }
+
+        @Override
+        public InputStream getResultAsStream() {
+            return body;
+        }
+
+        @Override
+        public String getUrl() {
+            return url;
+        }
+
+        @Override
+        public long getTime() {
+            return time;
+        }
+    }
+
+    /**
+     * Fails a read with {@link SocketTimeoutException} once no data has arrived for {@link #readTimeout}.
+     * The body stream of the client does not time out by itself, so a watchdog closes it and wakes the reader up.
+     */
+    class DeadlineInputStream extends FilterInputStream{
+        final ScheduledFuture<?> check;
+
+        volatile long lastProgress = Time.millis();
+        volatile boolean expired;
+        @Nullable
+        Thread reader;
+
+        DeadlineInputStream(InputStream in) {
+            super(in);
+            check = watchdog.scheduleWithFixedDelay(this::check, 1, 1, TimeUnit.SECONDS);
+        }
+
+        void check() {
+            if (Time.timeSinceMillis(lastProgress) < readTimeout.toMillis()) {
+                return;
+            }
+
+            expired = true;
+            check.cancel(false);
+            try {
+                in.close();
+            } catch(IOException ignored) {
+            }
+            synchronized (this) {
+                if (reader != null) {
+                    reader.interrupt();
+                }
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            begin();
+            try {
+                int value = super.read();
+                lastProgress = Time.millis();
+                return value;
+            } catch(IOException e) {
+                throw expired ? timeout() : e;
+            } finally {
+                end();
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            begin();
+            try {
+                int read = super.read(b, off, len);
+                lastProgress = Time.millis();
+                return read;
+            } catch(IOException e) {
+                throw expired ? timeout() : e;
+            } finally {
+                end();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            check.cancel(false);
+            super.close();
+        }
+
+        private void begin() throws IOException {
+            if (expired) {
+                throw timeout();
+            }
+            synchronized (this) {
+                reader = Thread.currentThread();
+            }
+        }
+
+        private void end() {
+            synchronized (this) {
+                reader = null;
+                if (expired) {
+                    // don't leave the interrupt from the watchdog on a pooled thread
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private SocketTimeoutException timeout() {
+            return new SocketTimeoutException("No data received for " + readTimeout.getSeconds() + "s");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package inside;
+
+import arc.func.Boolf;
+import arc.struct.*;
+
+import java.util.*;
+
+/**
+ * Bounded LRU cache of catalog query results. Results are kept as {@code [start, end)} index ranges into the catalog
+ * and are only valid for the catalog generation they were computed for, so a sync invalidates them at once.
+ */
+public class QueryCache{
+
+    public static final int defaultCapacity = 64;
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    public QueryCache() {
+        this(defaultCapacity);
+    }
+
+    public QueryCache(int capacity) {
+        entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @param catalog catalog name, e.g. {@code plugins}
+     * @param generation current generation of the catalog
+     * @param items the catalog
+     * @param query normalized query, see {@link #normalize(String, StringMap)}
+     * @param predicate used to filter the catalog on a cache miss
+     * @return matching items, in catalog order
+     */
+    public synchronized <T> Seq<T> select(String catalog, int generation, Seq<T> items, String query, Boolf<T> predicate) {
+        String key = catalog + '\0' + query;
+        Entry entry = entries.get(key);
+        if (entry == null || entry.generation != generation) {
+            entry = new Entry(generation, ranges(items, predicate));
+            entries.put(key, entry);
+        }
+
+        IntSeq ranges = entry.ranges;
+        Seq<T> result = new Seq<>();
+        for (int i = 0; i < ranges.size; i += 2) {
+            for (int j = ranges.get(i); j < ranges.get(i + 1); j++) {
+                result.add(items.get(j));
+            }
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /** @return cache key of a plain text query. */
+    public static String normalize(String kind, String query) {
+        return kind + '\0' + query.toLowerCase(Locale.ROOT);
+    }
+
+    /** @return cache key of a query: lowercased criteria pairs ordered by key, criteria aliases resolved. */
+    public static String normalize(String kind, StringMap criteria) {
+        Seq<String> pairs = new Seq<>(criteria.size);
+        for (var e : criteria) {
+            String key = e.key.toLowerCase(Locale.ROOT);
+            SearchCriteria criterion = SearchCriteria.getCriteriaMap().get(key);
+            if (criterion != null) {
+                key = criterion.canonical().name();
+            }
+            pairs.add(key + '=' + e.value.toLowerCase(Locale.ROOT));
+        }
+        pairs.sort();
+
+        var builder = new StringBuilder(kind);
+        for (String pair : pairs) {
+            builder.append('\0').append(pair);
+        }
+        return builder.toString();
+    }
+
+    private static <T> IntSeq ranges(Seq<T> items, Boolf<T> predicate) {
+        IntSeq ranges = new IntSeq();
+        int start = -1;
+        for (int i = 0; i < items.size; i++) {
+            boolean matches = predicate.get(items.get(i));
+            if (matches && start == -1) {
+                start = i;
+            } else if (!matches && start != -1) {
+                ranges.add(start, i);
+                start = -1;
+            }
+        }
+        if (start != -1) {
+            ranges.add(start, items.size);
+        }
+        return ranges;
+    }
+
+    private static class Entry{
+        final int generation;
+        final IntSeq ranges;
+
+        Entry(int generation, IntSeq ranges) {
+            this.generation = generation;
+            this.ranges = ranges;
+        }
+    }
+}
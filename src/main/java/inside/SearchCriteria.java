@@ -39,6 +39,11 @@ public enum SearchCriteria implements Boolf2<String, ModListing> {
         return criteriaMap;
     }
 
+    /** @return the criteria this one is an alias of, or itself. */
+    public SearchCriteria canonical() {
+        return predicate instanceof SearchCriteria ? ((SearchCriteria)predicate).canonical() : this;
+    }
+
     SearchCriteria(Boolf2<String, ModListing> predicate) {
         this.predicate = predicate;
     }
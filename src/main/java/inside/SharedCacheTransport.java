@@ -0,0 +1,326 @@
+package inside;
+
+import arc.Net;
+import arc.files.Fi;
+import arc.func.*;
+import arc.struct.Seq;
+import arc.util.*;
+import arc.util.io.Streams;
+
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Transport which keeps successful responses in a directory shared by every server process on the host.
+ * <p>
+ * Only one process fetches a missing or expired entry, guarded by a per-entry file lock; the others wait for it
+ * and reuse the result. Requests for the same entry within a process are coalesced before touching the lock.
+ * Entries are written to a temporary file and atomically renamed into place, so readers always see a complete
+ * file and never need a lock. An entry that disappears before it could be opened is fetched again.
+ */
+public class SharedCacheTransport implements HttpTransport{
+
+    /** Release assets are immutable, everything else expires with the catalog. */
+    public static final long artifactMaxAge = 7 * 24 * 60 * 60 * 1000; // 7 days
+
+    public static final long waitTimeout = 60 * 1000;
+
+    public static final long pollInterval = 100;
+
+    public final HttpTransport transport;
+    public final Fi entries, locks, tmp;
+
+    public long maxSize = 512L * 1024 * 1024;
+
+    /** Entries being fetched by this process, by entry path. */
+    private static final ConcurrentHashMap<String, CompletableFuture<Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private static final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "PluginBrowser-Cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SharedCacheTransport(Fi directory, HttpTransport transport) {
+        this.transport = transport;
+        entries = directory.child("entries");
+        locks = directory.child("locks");
+        tmp = directory.child("tmp");
+        entries.mkdirs();
+        locks.mkdirs();
+        tmp.mkdirs();
+    }
+
+    @Override
+    public void get(String url, Cons<Response> success, Cons<Throwable> failure) {
+        executor.execute(() -> {
+            try {
+                fetch(url, Time.millis(), success, failure);
+            } catch(Throwable t) {
+                failure.get(t);
+            }
+        });
+    }
+
+    @Override
+    public String name() {
+        return "shared-cache/" + transport.name();
+    }
+
+    @Override
+    public void invalidate(String url) {
+        try {
+            entries.child(key(url) + "-" + maxAge(url)).delete();
+        } catch(NoSuchAlgorithmException e) {
+            throw new ArcRuntimeException(e);
+        }
+    }
+
+    public long maxAge(String url) {
+        return url.contains("/releases/download/") ? artifactMaxAge : GitHubDownloader.syncIntervalTime;
+    }
+
+    private void fetch(String url, long start, Cons<Response> success, Cons<Throwable> failure) throws Exception {
+        long maxAge = maxAge(url);
+        String key = key(url);
+        Fi entry = entries.child(key + "-" + maxAge);
+
+        if (fresh(entry, maxAge)) {
+            serve(url, entry, start, success, failure);
+            return;
+        }
+
+        // only one thread per entry touches its file lock: closing any other channel on the lock file
+        // would silently release the lock held by this process
+        var own = new CompletableFuture<Boolean>();
+        var pending = inFlight.putIfAbsent(entry.absolutePath(), own);
+        if (pending != null) {
+            pending.whenCompleteAsync((cached, t) -> {
+                if (Boolean.TRUE.equals(cached) && fresh(entry, maxAge)) {
+                    serve(url, entry, start, success, failure);
+                } else {
+                    transport.get(url, success, failure);
+                }
+            }, executor);
+            return;
+        }
+
+        Boolc finish = cached -> {
+            inFlight.remove(entry.absolutePath(), own);
+            own.complete(cached);
+        };
+
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(locks.child(key + ".lock").file().toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            while (true) {
+                if (channel.tryLock() != null) {
+                    // another process may have finished between the check and the lock
+                    if (fresh(entry, maxAge)) {
+                        release(channel);
+                        finish.get(true);
+                        serve(url, entry, start, success, failure);
+                    } else {
+                        download(url, key, entry, channel, start, finish, success, failure);
+                    }
+                    return;
+                }
+
+                if (Time.timeSinceMillis(start) >= waitTimeout) {
+                    Log.debug("Timed out waiting for shared cache entry of @, fetching directly.", url);
+                    release(channel);
+                    finish.get(false);
+                    transport.get(url, success, failure);
+                    return;
+                }
+                Thread.sleep(pollInterval);
+            }
+        } catch(Throwable t) {
+            if (channel != null) {
+                release(channel);
+            }
+            finish.get(false);
+            throw t;
+        }
+    }
+
+    private void download(String url, String key, Fi entry, FileChannel lock, long start, Boolc finish,
+                          Cons<Response> success, Cons<Throwable> failure) {
+        transport.get(url, res -> {
+            if (res.getStatus() != Net.HttpStatus.OK) {
+                release(lock);
+                finish.get(false);
+                success.get(res);
+                return;
+            }
+
+            Fi part = tmp.child(key + "." + Long.toHexString(Thread.currentThread().getId()) + "-" + Time.nanos());
+            try {
+                try (var in = res.getResultAsStream(); var out = part.write(false)) {
+                    Streams.copy(in, out);
+                }
+                Files.move(part.file().toPath(), entry.file().toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch(Throwable t) {
+                part.delete();
+                release(lock);
+                finish.get(false);
+                failure.get(t);
+                return;
+            }
+            // open the entry before anything can evict it, an artifact bigger than maxSize is removed right away
+            Response cached = open(url, entry, start);
+            release(lock);
+            finish.get(true);
+
+            evict();
+            if (cached != null) {
+                success.get(cached);
+            } else {
+                transport.get(url, success, failure);
+            }
+        }, t -> {
+            release(lock);
+            finish.get(false);
+            failure.get(t);
+        });
+    }
+
+    private void serve(String url, Fi entry, long start, Cons<Response> success, Cons<Throwable> failure) {
+        Response cached = open(url, entry, start);
+        if (cached == null) {
+            // evicted or invalidated since the freshness check, treat it as a miss
+            transport.get(url, success, failure);
+            return;
+        }
+
+        try {
+            success.get(cached);
+        } catch(Throwable t) {
+            failure.get(t);
+        }
+    }
+
+    @Nullable
+    private static Response open(String url, Fi entry, long start) {
+        try {
+            return new CachedResponse(url, entry, Time.timeSinceMillis(start));
+        } catch(Throwable t) {
+            return null;
+        }
+    }
+
+    /** Removes expired entries, then the oldest ones until the cache fits into {@link #maxSize}. */
+    public void evict() {
+        // one evicting thread per process, for the same reason as the entry locks
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+
+        try (var channel = FileChannel.open(locks.child("evict.lock").file().toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            FileLock lock = channel.tryLock();
+            if (lock == null) {
+                return; // another process is already evicting
+            }
+
+            long now = Time.millis();
+            Seq<Fi> files = Seq.with(entries.list());
+            files.sortComparing(Fi::lastModified);
+
+            long size = 0;
+            for (Fi file : files) {
+                size += file.length();
+            }
+
+            for (Fi file : files) {
+                long length = file.length();
+                // entry names end with their max age
+                String name = file.name();
+                long maxAge = Strings.parseLong(name.substring(name.lastIndexOf('-') + 1), artifactMaxAge);
+                if (now - file.lastModified() > maxAge || size > maxSize) {
+                    // open readers keep their handle on POSIX; where deleting an open file fails, it is retried next time
+                    if (file.delete()) {
+                        size -= length;
+                    }
+                }
+            }
+
+            // leftovers of crashed writers
+            for (Fi file : tmp.list()) {
+                if (now - file.lastModified() > waitTimeout) {
+                    file.delete();
+                }
+            }
+        } catch(IOException e) {
+            Log.err("Failed to evict shared cache entries: @", e);
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static boolean fresh(Fi entry, long maxAge) {
+        return entry.exists() && Time.timeSinceMillis(entry.lastModified()) < maxAge;
+    }
+
+    private static void release(FileChannel channel) {
+        try {
+            channel.close();
+        } catch(IOException e) {
+            Log.err(e);
+        }
+    }
+
+    private static String key(String url) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-1").digest(url.getBytes(StandardCharsets.UTF_8));
+        var builder = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            builder.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return builder.toString();
+    }
+
+    static class CachedResponse implements Response{
+        final String url;
+        final InputStream stream;
+        final long time;
+
+        CachedResponse(String url, Fi file, long time) {
+            this.url = url;
+            this.time = time;
+            // opened right away so that a concurrent eviction cannot pull the file from under the caller
+            stream = file.read(8192);
+        }
+
+        @Override
+        public Net.HttpStatus getStatus() {
+            return Net.HttpStatus.OK;
+        }
+
+        @Nullable
+        @Override
+        public String getHeader(String name) {
+            return null;
+        }
+
+        @Override
+        public InputStream getResultAsStream() {
+            return stream;
+        }
+
+        @Override
+        public String getUrl() {
+            return url;
+        }
+
+        @Override
+        public long getTime() {
+            return time;
+        }
+    }
+}